@@ -2,8 +2,20 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.*;
+import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.prefs.Preferences;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import javax.sound.sampled.*;
 
 public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
@@ -35,7 +47,12 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
     private final int[] px = new int[MAX];
     private final int[] py = new int[MAX];
 
-    private int len = 7;
+    private static final int START_LEN = 7;
+    private int len = START_LEN;
+
+    // interpolated pixel centers of the snake, refilled every frame
+    private final double[] ptX = new double[MAX];
+    private final double[] ptY = new double[MAX];
 
     private int foodX, foodY;
     private Food foodType = Food.NORMAL;
@@ -43,6 +60,11 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
     private int score = 0;
     private int best  = 0;
 
+    // Levels (walls + portals); null = classic empty board
+    private final ArrayList<Level> levels = new ArrayList<>();
+    private int levelIdx = -1;
+    private Level level = null;
+
     // Step timing
     private int baseStepMs = 95;
     private int stepMs = baseStepMs;
@@ -50,6 +72,7 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
     // Rendering scale
     private int tile = 24;
     private int offX = 0, offY = 0;
+    private double devSX = 1.0, devSY = 1.0; // HiDPI scale of the screen we're on
 
     // Animation timing
     private final javax.swing.Timer frameTimer = new javax.swing.Timer(16, this);
@@ -60,6 +83,34 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
     // Background stars
     private static class Star { float x, y, s, r; }
     private final Star[] stars = new Star[160];
+    private boolean starfield = true;
+
+    // Dirty-region rendering (used when the starfield is off or too slow to redraw every frame)
+    private static final double SLOW_PAINT_MS = 8.0; // half of the 16ms frame budget
+    private static final int WARMUP_PAINTS = 180;    // ~3s of play: first frames pay for fonts/JIT, ignore them
+    private static final int SLOW_RUN = 15;          // consecutive slow frames before freezing the stars
+    private static final int PROBE_EVERY = 120;      // while frozen, time one full frame every ~2s
+    private static final int FAST_PROBES = 3;        // consecutive fast probes before unfreezing
+    private static final int HUD_BAND_H = 46;
+    private int timedPaints = 0;
+    private int slowFrames = 0, fastProbes = 0;
+    private int probeCountdown = PROBE_EVERY;
+    private boolean slowPaint = false;
+    private boolean probing = false;
+    private BufferedImage bgCache;
+    private boolean bgCacheStars;
+    private BufferedImage frameBuf; // whole frame, updated region by region
+    private boolean frameReady = false;             // frameBuf already holds this frame: paints only blit
+    private ArrayList<Rectangle> prevDirty = new ArrayList<>();
+    private ArrayList<Rectangle> curDirty = new ArrayList<>();
+    private int dirtyW, dirtyH;
+
+    // java -Dsnake.dirtyStats=true SnakeReal90 : log pixels redrawn per frame vs a full redraw
+    private static final boolean DIRTY_STATS = Boolean.getBoolean("snake.dirtyStats");
+    private static final int STATS_EVERY = 120;
+    private long statsPixels = 0;
+    private int statsFrames = 0, statsFull = 0;
+    private String lastHudLeft = "", lastHudRight = "";
 
     private final Random rng = new Random();
     private final Preferences prefs = Preferences.userNodeForPackage(SnakeReal90.class);
@@ -74,6 +125,7 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
 
         best = prefs.getInt("snake_real90_best", 0);
         initStars();
+        loadLevels(Paths.get("levels"));
 
         frameTimer.start();
         lastNanos = System.nanoTime();
@@ -108,20 +160,25 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         tile = Math.max(14, Math.min(w / COLS, h / ROWS));
         offX = (w - COLS * tile) / 2;
         offY = (h - ROWS * tile) / 2;
+
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        AffineTransform dt = (gc != null) ? gc.getDefaultTransform() : null;
+        devSX = (dt != null) ? dt.getScaleX() : 1.0;
+        devSY = (dt != null) ? dt.getScaleY() : 1.0;
     }
 
     // ===== Game flow =====
     private void startGame() {
         score = 0;
-        len = 7;
+        len = START_LEN;
         dir = Dir.RIGHT;
         nextDir = Dir.RIGHT;
 
-        int startX = COLS / 2;
-        int startY = ROWS / 2;
+        int startX = (level != null) ? level.startX : COLS / 2;
+        int startY = (level != null) ? level.startY : ROWS / 2;
 
         for (int i = 0; i < len; i++) {
-            sx[i] = startX - i;
+            sx[i] = Math.floorMod(startX - i, COLS);
             sy[i] = startY;
             px[i] = sx[i];
             py[i] = sy[i];
@@ -132,24 +189,50 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         alpha = 0.0;
         lastNanos = System.nanoTime();
 
-        spawnFood();
         state = State.RUNNING;
+        if (!spawnFood()) { gameOver(); return; }
         repaint();
     }
 
-    private void spawnFood() {
+    // false when no cell is left for food (board full): never spins on the event thread
+    private boolean spawnFood() {
         foodType = (rng.nextInt(100) < 16) ? Food.GOLD : Food.NORMAL;
 
-        while (true) {
-            foodX = rng.nextInt(COLS);
-            foodY = rng.nextInt(ROWS);
-
-            boolean onSnake = false;
-            for (int i = 0; i < len; i++) {
-                if (sx[i] == foodX && sy[i] == foodY) { onSnake = true; break; }
+        for (int tries = 0; tries < 64; tries++) {
+            int x = rng.nextInt(COLS);
+            int y = rng.nextInt(ROWS);
+            if (foodCellFree(x, y)) {
+                foodX = x;
+                foodY = y;
+                return true;
             }
-            if (!onSnake) break;
         }
+
+        // crowded board: pick uniformly among the cells that are actually free
+        boolean[] taken = new boolean[MAX];
+        for (int i = 0; i < len; i++) taken[sy[i] * COLS + sx[i]] = true;
+        int[] free = new int[MAX];
+        int n = 0;
+        for (int c = 0; c < MAX; c++) {
+            if (!taken[c] && !levelBlocked(c % COLS, c / COLS)) free[n++] = c;
+        }
+        if (n == 0) return false;
+
+        int c = free[rng.nextInt(n)];
+        foodX = c % COLS;
+        foodY = c / COLS;
+        return true;
+    }
+
+    private boolean foodCellFree(int x, int y) {
+        for (int i = 0; i < len; i++) {
+            if (sx[i] == x && sy[i] == y) return false;
+        }
+        return !levelBlocked(x, y);
+    }
+
+    private boolean levelBlocked(int x, int y) {
+        return level != null && (level.wall(x, y) || level.portalExit(x, y) >= 0);
     }
 
     private void gameOver() {
@@ -193,6 +276,29 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         if (sy[0] < 0) sy[0] = ROWS - 1;
         if (sy[0] >= ROWS) sy[0] = 0;
 
+        if (level != null) {
+            // portal: land on the paired cell
+            int exit = level.portalExit(sx[0], sy[0]);
+            if (exit >= 0) {
+                sx[0] = exit % level.width;
+                sy[0] = exit / level.width;
+            }
+
+            // portal hops snap instead of sliding across the board
+            for (int i = 0; i < len; i++) {
+                if (hop(px[i], sx[i], COLS) || hop(py[i], sy[i], ROWS)) {
+                    px[i] = sx[i];
+                    py[i] = sy[i];
+                }
+            }
+
+            // wall collision
+            if (level.wall(sx[0], sy[0])) {
+                gameOver();
+                return;
+            }
+        }
+
         // self collision
         for (int i = 1; i < len; i++) {
             if (sx[0] == sx[i] && sy[0] == sy[i]) {
@@ -217,8 +323,8 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
             // speed up gradually
             stepMs = Math.max(45, baseStepMs - (score / 80) * 3);
 
+            if (!spawnFood()) { gameOver(); return; }
             sfx.playEat();
-            spawnFood();
 
             if (score > best) {
                 best = score;
@@ -234,7 +340,7 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         float dt = (now - lastNanos) / 1_000_000_000f;
         lastNanos = now;
 
-        updateStars(dt);
+        if (!slowPaint) updateStars(dt); // frozen stars stay where the cache drew them
 
         if (state == State.RUNNING) {
             accMs += dt * 1000.0;
@@ -249,7 +355,17 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
             alpha = 1.0;
         }
 
-        repaint();
+        if (slowPaint && starfield && state == State.RUNNING && !probing && --probeCountdown <= 0) {
+            probeCountdown = PROBE_EVERY;
+            probing = true; // next frame is a timed full redraw
+        }
+
+        if (state == State.RUNNING && dirtyMode()) {
+            repaintDirty();
+        } else {
+            prevDirty.clear();
+            repaint();
+        }
     }
 
     // ===== Rendering =====
@@ -259,25 +375,28 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         recomputeScale();
 
         Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        // background
-        GradientPaint bg = new GradientPaint(0, 0, new Color(6, 10, 22), getWidth(), getHeight(), new Color(0, 0, 0));
-        g2.setPaint(bg);
-        g2.fillRect(0, 0, getWidth(), getHeight());
-
-        // stars
-        for (Star st : stars) {
-            int x = (int) (st.x * getWidth());
-            int y = (int) (st.y * getHeight());
-            int r = (int) st.r;
-            g2.setColor(new Color(255, 255, 255, 70));
-            g2.fillOval(x, y, r, r);
+        if (dirtyMode()) {
+            // expose / full repaint: bring the frame buffer up to date first
+            if (!frameReady) renderFrameBuffer(g2.getClipBounds());
+            drawDevice(g2, frameBuf);
+            g2.dispose();
+            return;
         }
 
-        // board glow frame
-        g2.setColor(new Color(120, 160, 255, 22));
-        g2.fillRoundRect(offX - 18, offY - 18, COLS * tile + 36, ROWS * tile + 36, 34, 34);
+        long t0 = System.nanoTime();
+        renderFrame(g2, false);
+        g2.dispose();
+
+        if (starfield && state == State.RUNNING) notePaintTime(System.nanoTime() - t0);
+    }
+
+    private void renderFrame(Graphics2D g2, boolean cached) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // background + stars + board frame (only the clipped part of the cache is copied)
+        if (cached) drawDevice(g2, backgroundCache());
+        else drawBackground(g2, starfield);
 
         // food
         drawFood(g2);
@@ -290,8 +409,56 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         if (state == State.MENU) drawMenu(g2);
         if (state == State.PAUSED) drawPause(g2);
         if (state == State.GAME_OVER) drawGameOver(g2);
+    }
 
-        g2.dispose();
+    private void drawBackground(Graphics2D g2, boolean withStars) {
+        // background
+        GradientPaint bg = new GradientPaint(0, 0, new Color(6, 10, 22), getWidth(), getHeight(), new Color(0, 0, 0));
+        g2.setPaint(bg);
+        g2.fillRect(0, 0, getWidth(), getHeight());
+
+        // stars
+        if (withStars) {
+            for (Star st : stars) {
+                int x = (int) (st.x * getWidth());
+                int y = (int) (st.y * getHeight());
+                int r = (int) st.r;
+                g2.setColor(new Color(255, 255, 255, 70));
+                g2.fillOval(x, y, r, r);
+            }
+        }
+
+        // board glow frame
+        g2.setColor(new Color(120, 160, 255, 22));
+        g2.fillRoundRect(offX - 18, offY - 18, COLS * tile + 36, ROWS * tile + 36, 34, 34);
+
+        if (level != null) drawLevel(g2);
+    }
+
+    // Walls and portals are static, so they live with the background (and its cache)
+    private void drawLevel(Graphics2D g2) {
+        g2.setColor(new Color(70, 95, 170, 200));
+        long cells = (long) level.width * level.height;
+        for (int w = 0; w < level.words(); w++) {
+            long bits = level.word(w);
+            while (bits != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (i >= cells) break;
+                int cx = i % level.width, cy = i / level.width;
+                g2.fillRoundRect(offX + cx * tile + 1, offY + cy * tile + 1, tile - 2, tile - 2, tile / 3, tile / 3);
+            }
+        }
+
+        int[] pt = level.portals;
+        g2.setStroke(new BasicStroke(Math.max(2f, tile * 0.12f)));
+        for (int i = 0; i < pt.length; i += 2) {
+            int cx = pt[i] % level.width, cy = pt[i] / level.width;
+            g2.setColor(new Color(190, 110, 255, 60));
+            g2.fillOval(offX + cx * tile + 2, offY + cy * tile + 2, tile - 4, tile - 4);
+            g2.setColor(new Color(210, 150, 255, 220));
+            g2.drawOval(offX + cx * tile + 3, offY + cy * tile + 3, tile - 6, tile - 6);
+        }
     }
 
     private void drawFood(Graphics2D g2) {
@@ -327,45 +494,25 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         if (len < 2) return;
 
         // convert snake cells -> pixel center points (still wrapped 0..COLS-1 etc.)
-        ArrayList<Point2D.Double> pts = new ArrayList<>(len);
-        for (int i = 0; i < len; i++) {
-            double gx = interpWrap(px[i], sx[i], COLS, alpha);
-            double gy = interpWrap(py[i], sy[i], ROWS, alpha);
-            double x = offX + (gx + 0.5) * tile;
-            double y = offY + (gy + 0.5) * tile;
-            pts.add(new Point2D.Double(x, y));
-        }
-
-        // split into segments where a wrap jump happens (prevents “screen-bridge” bug)
-        double jump = tile * 1.6; // threshold: larger than a normal neighbor distance
-        ArrayList<ArrayList<Point2D.Double>> segments = new ArrayList<>();
-        ArrayList<Point2D.Double> cur = new ArrayList<>();
-        cur.add(pts.get(0));
-
-        for (int i = 1; i < pts.size(); i++) {
-            Point2D.Double a = pts.get(i - 1);
-            Point2D.Double b = pts.get(i);
-            double dx = Math.abs(b.x - a.x);
-            double dy = Math.abs(b.y - a.y);
-
-            // If it jumps far in x or y, it's a wrap -> start a new segment
-            if (dx > jump || dy > jump) {
-                segments.add(cur);
-                cur = new ArrayList<>();
-                cur.add(b);
-            } else {
-                cur.add(b);
-            }
-        }
-        segments.add(cur);
+        interpWrapAxis(px, sx, len, COLS, alpha, tile, offX + 0.5 * tile, ptX);
+        interpWrapAxis(py, sy, len, ROWS, alpha, tile, offY + 0.5 * tile, ptY);
 
         float thickness = Math.max(10f, tile * 0.55f);
         double cornerR = Math.max(6, tile * 0.32);
 
-        // draw each segment with rounded 90° corners
-        for (ArrayList<Point2D.Double> seg : segments) {
-            if (seg.size() < 2) continue;
-            Path2D path = buildRoundedCornerPath(seg, cornerR);
+        // split into segments where a wrap jump happens (prevents “screen-bridge” bug)
+        double jump = tile * 1.6; // threshold: larger than a normal neighbor distance
+        int from = 0;
+        for (int i = 1; i <= len; i++) {
+            // If it jumps far in x or y, it's a wrap -> close the segment [from, i)
+            if (i < len && Math.abs(ptX[i] - ptX[i - 1]) <= jump && Math.abs(ptY[i] - ptY[i - 1]) <= jump) continue;
+            int to = i;
+            int start = from;
+            from = i;
+            if (to - start < 2) continue;
+
+            // draw each segment with rounded 90° corners
+            Path2D path = buildRoundedCornerPath(ptX, ptY, start, to, cornerR);
 
             // glow
             g2.setStroke(new BasicStroke(thickness * 1.9f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
@@ -384,8 +531,7 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         }
 
         // head always drawn (nice)
-        Point2D.Double head = pts.get(0);
-        drawHead(g2, head.x, head.y, thickness);
+        drawHead(g2, ptX[0], ptY[0], thickness);
     }
 
     private void drawHead(Graphics2D g2, double hx, double hy, float thickness) {
@@ -425,30 +571,27 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         g2.fill(new Ellipse2D.Double(e2x - pupilR + fx * 1.8, e2y - pupilR + fy * 1.8, pupilR * 2, pupilR * 2));
     }
 
-    // Rounded-corner polyline path
-    private static Path2D buildRoundedCornerPath(java.util.List<Point2D.Double> pts, double cornerR) {
-        int n = pts.size();
+    // Rounded-corner polyline path through points [from, to)
+    private static Path2D buildRoundedCornerPath(double[] xs, double[] ys, int from, int to, double cornerR) {
         Path2D p = new Path2D.Double();
-        p.moveTo(pts.get(0).x, pts.get(0).y);
+        p.moveTo(xs[from], ys[from]);
 
-        if (n == 2) {
-            p.lineTo(pts.get(1).x, pts.get(1).y);
+        if (to - from == 2) {
+            p.lineTo(xs[from + 1], ys[from + 1]);
             return p;
         }
 
-        for (int i = 1; i < n - 1; i++) {
-            Point2D.Double P0 = pts.get(i - 1);
-            Point2D.Double P1 = pts.get(i);
-            Point2D.Double P2 = pts.get(i + 1);
+        for (int i = from + 1; i < to - 1; i++) {
+            double x1 = xs[i], y1 = ys[i];
 
-            double vx1 = P1.x - P0.x, vy1 = P1.y - P0.y;
-            double vx2 = P2.x - P1.x, vy2 = P2.y - P1.y;
+            double vx1 = x1 - xs[i - 1], vy1 = y1 - ys[i - 1];
+            double vx2 = xs[i + 1] - x1, vy2 = ys[i + 1] - y1;
 
             double len1 = Math.hypot(vx1, vy1);
             double len2 = Math.hypot(vx2, vy2);
 
             if (len1 < 1e-6 || len2 < 1e-6) {
-                p.lineTo(P1.x, P1.y);
+                p.lineTo(x1, y1);
                 continue;
             }
 
@@ -457,31 +600,34 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
 
             double dot = ux1 * ux2 + uy1 * uy2;
             if (Math.abs(dot - 1.0) < 1e-3) {
-                p.lineTo(P1.x, P1.y);
+                p.lineTo(x1, y1);
                 continue;
             }
 
             double r = Math.min(cornerR, Math.min(len1, len2) * 0.5);
 
-            double ax = P1.x - ux1 * r;
-            double ay = P1.y - uy1 * r;
-            double bx = P1.x + ux2 * r;
-            double by = P1.y + uy2 * r;
+            double ax = x1 - ux1 * r;
+            double ay = y1 - uy1 * r;
+            double bx = x1 + ux2 * r;
+            double by = y1 + uy2 * r;
 
             p.lineTo(ax, ay);
-            p.quadTo(P1.x, P1.y, bx, by);
+            p.quadTo(x1, y1, bx, by);
         }
 
-        p.lineTo(pts.get(n - 1).x, pts.get(n - 1).y);
+        p.lineTo(xs[to - 1], ys[to - 1]);
         return p;
     }
 
+    private String hudLeft() { return "Score: " + score; }
+    private String hudRight() { return "Best: " + best + "   F11 Fullscreen   P Pause   ESC Menu"; }
+
     private void drawHUD(Graphics2D g2) {
         g2.setFont(new Font("Consolas", Font.BOLD, 20));
         g2.setColor(new Color(255, 255, 255, 230));
-        g2.drawString("Score: " + score, 18, 34);
+        g2.drawString(hudLeft(), 18, 34);
 
-        String right = "Best: " + best + "   F11 Fullscreen   P Pause   ESC Menu";
+        String right = hudRight();
         int sw = g2.getFontMetrics().stringWidth(right);
         g2.drawString(right, getWidth() - sw - 18, 34);
     }
@@ -511,7 +657,8 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         int y = getHeight()/2 - 30;
         drawCenter(g2, "ENTER  →  Start", y); y += 34;
         drawCenter(g2, "Arrow Keys  →  Classic 90° movement", y); y += 28;
-        drawCenter(g2, "P Pause   R Restart   F11 Fullscreen   ESC Menu", y);
+        drawCenter(g2, "P Pause   R Restart   S Stars   F11 Fullscreen   ESC Menu", y); y += 28;
+        if (!levels.isEmpty()) drawCenter(g2, "L  →  Level: " + ((level != null) ? level.name : "Open board"), y);
     }
 
     private void drawPause(Graphics2D g2) {
@@ -536,12 +683,254 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
         g2.drawString(s, (getWidth() - sw) / 2, y);
     }
 
+    // ===== Dirty-region rendering =====
+    private boolean dirtyMode() { return !starfield || (slowPaint && !probing); }
+
+    private void toggleStarfield() {
+        starfield = !starfield;
+        slowPaint = false;
+        probing = false;
+        timedPaints = 0;
+        slowFrames = 0;
+        bgCache = null;
+        prevDirty.clear();
+        repaint();
+    }
+
+    // Cost of full starfield frames while playing: after warm-up, a run of frames eating half the
+    // frame budget freezes the stars; while frozen, occasional probe frames can unfreeze them
+    private void notePaintTime(long nanos) {
+        boolean slow = nanos / 1_000_000.0 > SLOW_PAINT_MS;
+
+        if (probing) {
+            probing = false;
+            fastProbes = slow ? 0 : fastProbes + 1;
+            if (fastProbes >= FAST_PROBES) {
+                slowPaint = false;
+                slowFrames = 0;
+            }
+            return;
+        }
+
+        if (++timedPaints <= WARMUP_PAINTS) return;
+        slowFrames = slow ? slowFrames + 1 : 0;
+        if (slowFrames >= SLOW_RUN) {
+            slowPaint = true;
+            fastProbes = 0;
+            probeCountdown = PROBE_EVERY;
+            bgCache = null;
+            prevDirty.clear();
+        }
+    }
+
+    // Gradient, frame and (frozen) stars rendered once per size
+    private BufferedImage backgroundCache() {
+        if (!fitsDevice(bgCache) || bgCacheStars != starfield) {
+            bgCache = deviceImage();
+            bgCacheStars = starfield;
+
+            Graphics2D g2 = deviceGraphics(bgCache);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            drawBackground(g2, starfield);
+            g2.dispose();
+        }
+        return bgCache;
+    }
+
+    // Render the part of the frame inside clip (null = all) into the frame buffer, in one pass
+    private void renderFrameBuffer(Shape clip) {
+        if (!fitsDevice(frameBuf)) {
+            frameBuf = deviceImage();
+            clip = null;
+        }
+        Graphics2D g2 = deviceGraphics(frameBuf);
+        if (clip != null) g2.clip(clip);
+        renderFrame(g2, true);
+        g2.dispose();
+    }
+
+    // Caches live at device resolution so they stay sharp on scaled (HiDPI) screens
+    private boolean fitsDevice(BufferedImage img) {
+        return img != null
+                && img.getWidth() == (int) Math.ceil(Math.max(1, getWidth()) * devSX)
+                && img.getHeight() == (int) Math.ceil(Math.max(1, getHeight()) * devSY);
+    }
+
+    private BufferedImage deviceImage() {
+        int w = (int) Math.ceil(Math.max(1, getWidth()) * devSX);
+        int h = (int) Math.ceil(Math.max(1, getHeight()) * devSY);
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        return (gc != null)
+                ? gc.createCompatibleImage(w, h)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private Graphics2D deviceGraphics(BufferedImage img) {
+        Graphics2D g2 = img.createGraphics();
+        g2.scale(devSX, devSY);
+        return g2;
+    }
+
+    // Draw a device-resolution image 1:1 onto device pixels
+    private void drawDevice(Graphics2D g2, BufferedImage img) {
+        AffineTransform at = g2.getTransform();
+        g2.scale(1 / devSX, 1 / devSY);
+        g2.drawImage(img, 0, 0, null);
+        g2.setTransform(at);
+    }
+
+    // Repaint only what changed since the last frame: last frame's regions (to erase) + this frame's
+    private void repaintDirty() {
+        recomputeScale();
+        int w = getWidth(), h = getHeight();
+
+        collectDirty(curDirty);
+
+        long touched = (long) w * h;
+        if (prevDirty.isEmpty() || w != dirtyW || h != dirtyH || !fitsDevice(frameBuf)) {
+            // first dirty frame after a full one (overlay, resize, mode switch)
+            repaint();
+        } else {
+            ArrayList<Rectangle> regions = new ArrayList<>(prevDirty.size() + curDirty.size());
+            for (Rectangle r : prevDirty) addDirty(regions, r);
+            for (Rectangle r : curDirty) addDirty(regions, r);
+
+            long area = 0;
+            Area clip = new Area();
+            for (Rectangle r : regions) {
+                area += (long) r.width * r.height;
+                clip.add(new Area(r));
+            }
+
+            if (area * 2 > (long) w * h) {
+                repaint(); // cheaper to redraw everything
+            } else {
+                // draw the snake etc. once for all regions, then only copy those regions to the screen
+                renderFrameBuffer(clip);
+                frameReady = true;
+                for (Rectangle r : regions) paintImmediately(r);
+                frameReady = false;
+                touched = area;
+            }
+        }
+        if (DIRTY_STATS) noteDirtyStats(touched, (long) w * h);
+
+        dirtyW = w;
+        dirtyH = h;
+        ArrayList<Rectangle> t = prevDirty;
+        prevDirty = curDirty;
+        curDirty = t;
+    }
+
+    private void noteDirtyStats(long touched, long full) {
+        statsPixels += touched;
+        statsFrames++;
+        if (touched == full) statsFull++;
+        if (statsFrames < STATS_EVERY) return;
+
+        long avg = statsPixels / statsFrames;
+        System.err.printf("dirty: %d px/frame vs %d full redraw (%.1f%%), %d/%d frames fully redrawn, len %d%n",
+                avg, full, 100.0 * avg / Math.max(1, full), statsFull, statsFrames, len);
+        statsPixels = 0;
+        statsFrames = 0;
+        statsFull = 0;
+    }
+
+    private void collectDirty(ArrayList<Rectangle> out) {
+        out.clear();
+
+        // food pulses every frame: cell + outer glow ring
+        int foodPad = (int) Math.ceil(tile * 0.6) + 2;
+        addDirty(out, cellRect(foodX, foodY, foodPad));
+
+        // snake: only points whose neighbourhood changes shape (head, tail, bends, wraps);
+        // points on a straight run slide along an unchanged stroke
+        float thickness = Math.max(10f, tile * 0.55f);
+        int pad = (int) Math.ceil(Math.max(thickness * 0.95, thickness * 0.75 + 10)) + 2;
+        for (int i = 0; i < len; i++) {
+            int dx = sx[i] - px[i], dy = sy[i] - py[i];
+            boolean special = i == 0 || i == len - 1
+                    || dx != sx[i - 1] - px[i - 1] || dy != sy[i - 1] - py[i - 1]
+                    || dx != sx[i + 1] - px[i + 1] || dy != sy[i + 1] - py[i + 1];
+            if (!special) continue;
+            addDirty(out, cellRect(px[i], py[i], pad));
+            if (dx != 0 || dy != 0) addDirty(out, cellRect(sx[i], sy[i], pad));
+
+            // a wrapping point is drawn sliding through the virtual cell just past the right/bottom edge
+            if (dx > 1 || dx < -1) addDirty(out, cellRect(COLS, py[i], pad));
+            if (dy > 1 || dy < -1) addDirty(out, cellRect(px[i], ROWS, pad));
+        }
+
+        // HUD band only when its text changed
+        String left = hudLeft(), right = hudRight();
+        if (!left.equals(lastHudLeft) || !right.equals(lastHudRight)) {
+            addDirty(out, new Rectangle(0, 0, getWidth(), HUD_BAND_H));
+            lastHudLeft = left;
+            lastHudRight = right;
+        }
+    }
+
+    private Rectangle cellRect(int cx, int cy, int pad) {
+        return new Rectangle(offX + cx * tile - pad, offY + cy * tile - pad, tile + pad * 2, tile + pad * 2);
+    }
+
+    // Add a rectangle, merging it with any it overlaps (so no area is painted twice)
+    private static void addDirty(ArrayList<Rectangle> rs, Rectangle r) {
+        for (int i = 0; i < rs.size(); i++) {
+            Rectangle o = rs.get(i);
+            if (o.intersects(r)) {
+                rs.remove(i);
+                r = r.union(o);
+                i = -1;
+            }
+        }
+        rs.add(r);
+    }
+
+    // ===== Levels =====
+    private void loadLevels(Path dir) {
+        if (!Files.isDirectory(dir)) return;
+
+        ArrayList<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.lvl")) {
+            for (Path p : ds) files.add(p);
+        } catch (IOException | DirectoryIteratorException ex) {
+            // keep whatever was listed before the error
+            System.err.println("levels: cannot list " + dir + ": " + ex.getMessage());
+        }
+        Collections.sort(files);
+
+        // a bad level file must never keep the game from starting: report it and skip it
+        for (Path p : files) {
+            try {
+                Level lv = Level.load(p);
+                // board is fixed at COLS x ROWS
+                if (lv.width == COLS && lv.height == ROWS) levels.add(lv);
+                else System.err.println("levels: skipping " + p + ": " + lv.width + "x" + lv.height
+                        + ", the board is " + COLS + "x" + ROWS);
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("levels: skipping " + p + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    // cycles Open board -> level 0 -> level 1 -> ... -> Open board
+    private void nextLevel() {
+        if (levels.isEmpty()) return;
+        levelIdx = (levelIdx + 2) % (levels.size() + 1) - 1;
+        level = (levelIdx >= 0) ? levels.get(levelIdx) : null;
+        bgCache = null;
+        prevDirty.clear();
+        repaint();
+    }
+
     // ===== Input =====
     @Override
     public void keyPressed(KeyEvent e) {
         int k = e.getKeyCode();
 
         if (k == KeyEvent.VK_F11) { toggleFullscreen(); return; }
+        if (k == KeyEvent.VK_S) { toggleStarfield(); return; }
 
         if (k == KeyEvent.VK_ESCAPE) {
             if (fullscreen) exitFullscreen();
@@ -552,6 +941,7 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
 
         if (state == State.MENU) {
             if (k == KeyEvent.VK_ENTER) startGame();
+            if (k == KeyEvent.VK_L) nextLevel();
             return;
         }
 
@@ -613,16 +1003,172 @@ public class SnakeReal90 extends JPanel implements ActionListener, KeyListener {
     // ===== Helpers =====
     private static double clamp(double v, double lo, double hi) { return Math.max(lo, Math.min(hi, v)); }
 
-    // Interpolate grid positions smoothly across wrap boundaries (for animation)
-    private static double interpWrap(int a, int b, int size, double t) {
-        int da = b - a;
-        if (Math.abs(da) > size / 2) {
-            if (da > 0) a += size; else b += size;
+    // true if a one-step move from a to b covers more than one cell (i.e. a portal, not a wrap)
+    private static boolean hop(int a, int b, int size) {
+        int d = Math.abs(b - a);
+        return d > 1 && d < size - 1;
+    }
+
+    // Interpolate n grid positions smoothly across wrap boundaries (for animation), straight into
+    // pixel space: out[i] = off + wrap(lerp(prev[i], cur[i], t)) * scale.
+    interface AxisInterp {
+        void interp(int[] prev, int[] cur, int n, int size, double t, double scale, double off, double[] out);
+    }
+
+    // Vector API kernel (VectorInterp.java) when run with --add-modules jdk.incubator.vector, else scalar
+    static final AxisInterp INTERP = pickInterp();
+
+    private static AxisInterp pickInterp() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (AxisInterp) Class.forName("VectorInterp").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError ex) {
+                // VectorInterp.java not compiled: use the scalar loop
+            }
+        }
+        return (prev, cur, n, size, t, scale, off, out) -> interpWrapScalar(prev, cur, 0, n, size, t, scale, off, out);
+    }
+
+    private static void interpWrapAxis(int[] prev, int[] cur, int n, int size, double t,
+                                       double scale, double off, double[] out) {
+        INTERP.interp(prev, cur, n, size, t, scale, off, out);
+    }
+
+    // Scalar kernel for points [from, to): branch-free and allocation-free, one pass over primitive arrays
+    static void interpWrapScalar(int[] prev, int[] cur, int from, int to, int size, double t,
+                                 double scale, double off, double[] out) {
+        int half = size / 2;
+        double inv = 1.0 / size;
+        for (int i = from; i < to; i++) {
+            int a = prev[i];
+            int d = cur[i] - a;
+            // take the short way around: d > half -> d - size, d < -half -> d + size
+            d -= size & ((half - d) >> 31);
+            d += size & ((d + half) >> 31);
+            double v = a + d * t;
+            v -= size * Math.floor(v * inv);
+            out[i] = off + v * scale;
+        }
+    }
+
+    // ===== Level file (memory-mapped) =====
+    // Little-endian binary layout:
+    //   int magic 'SNKL', int width, int height, int startX, int startY, int portalPairs
+    //   portalPairs * (int x1, int y1, int x2, int y2)
+    //   ceil(width * height / 64) longs: wall bitset, bit (y * width + x)
+    // The header is always a multiple of 8 bytes, so the bitset is read in place from the mapping:
+    // even a 4096x4096 map (2 MB of walls) "loads" without copying.
+    static final class Level { // package-private for bench/LevelBench
+        private static final int MAGIC = 0x4C4B4E53; // "SNKL"
+        private static final int HEADER = 24;
+        private static final int MAX_SIDE = 1 << 15;
+
+        final String name;
+        final int width, height;
+        final int startX, startY;
+        final int[] portals; // (cell, exitCell) pairs, cell = y * width + x; both directions listed
+        private final LongBuffer walls;
+
+        private Level(String name, int width, int height, int startX, int startY, int[] portals, LongBuffer walls) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.startX = startX;
+            this.startY = startY;
+            this.portals = portals;
+            this.walls = walls;
+        }
+
+        static Level load(Path file) throws IOException {
+            MappedByteBuffer buf;
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (ch.size() > Integer.MAX_VALUE) throw new IOException("level file too large: " + file);
+                buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buf.capacity() < HEADER || buf.getInt(0) != MAGIC) throw new IOException("not a level file: " + file);
+            int w = buf.getInt(4), h = buf.getInt(8);
+            int stX = buf.getInt(12), stY = buf.getInt(16);
+            int pairs = buf.getInt(20);
+            if (w < START_LEN || h <= 0 || w > MAX_SIDE || h > MAX_SIDE || pairs < 0) throw new IOException("bad level size: " + file);
+            if (stX < 0 || stX >= w || stY < 0 || stY >= h) throw new IOException("bad start cell: " + file);
+
+            long words = ((long) w * h + 63) >>> 6;
+            long bitsAt = HEADER + (long) pairs * 16;
+            if (bitsAt + words * 8 > buf.capacity()) throw new IOException("truncated level file: " + file);
+
+            int[] portals = new int[pairs * 4];
+            for (int i = 0; i < pairs; i++) {
+                int at = HEADER + i * 16;
+                int x1 = buf.getInt(at), y1 = buf.getInt(at + 4), x2 = buf.getInt(at + 8), y2 = buf.getInt(at + 12);
+                if (x1 < 0 || x1 >= w || y1 < 0 || y1 >= h || x2 < 0 || x2 >= w || y2 < 0 || y2 >= h) {
+                    throw new IOException("bad portal: " + file);
+                }
+                int a = y1 * w + x1, b = y2 * w + x2;
+                portals[i * 4]     = a; portals[i * 4 + 1] = b;
+                portals[i * 4 + 2] = b; portals[i * 4 + 3] = a;
+            }
+
+            LongBuffer walls = buf.position((int) bitsAt).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+
+            String name = file.getFileName().toString().replaceFirst("\\.lvl$", "");
+            Level lv = new Level(name, w, h, stX, stY, portals, walls);
+            lv.validate(file);
+            return lv;
         }
-        double v = a + (b - a) * t;
-        v = v % size;
-        if (v < 0) v += size;
-        return v;
+
+        // Levels are hand-made binaries, so catch the unplayable ones here
+        private void validate(Path file) throws IOException {
+            HashSet<Integer> ends = new HashSet<>();
+            for (int i = 0; i < portals.length; i += 4) {
+                int a = portals[i], b = portals[i + 1];
+                if (a == b) throw new IOException("portal leads to itself at " + cell(a) + ": " + file);
+                for (int c : new int[]{a, b}) {
+                    if (!ends.add(c)) throw new IOException("two portals share " + cell(c) + ": " + file);
+                    if (wall(c % width, c / width)) throw new IOException("portal on a wall at " + cell(c) + ": " + file);
+                }
+            }
+
+            // the snake starts as START_LEN cells running left from the start cell, heading right
+            for (int i = 0; i < START_LEN; i++) {
+                int x = Math.floorMod(startX - i, width);
+                if (wall(x, startY) || portalExit(x, startY) >= 0) {
+                    throw new IOException("start body blocked at " + x + "," + startY + ": " + file);
+                }
+            }
+            int ahead = Math.floorMod(startX + 1, width);
+            if (wall(ahead, startY)) throw new IOException("wall right of the start at " + ahead + "," + startY + ": " + file);
+
+            // food needs somewhere to go: count open cells until they outnumber portals + start body
+            long cells = (long) width * height;
+            long open = 0, needed = ends.size() + START_LEN + 1;
+            for (int i = 0; i < words() && open < needed; i++) {
+                long rem = cells - ((long) i << 6);
+                long valid = (rem < 64) ? (1L << rem) - 1 : -1L; // ignore padding bits in the last word
+                open += Long.bitCount(~word(i) & valid);
+            }
+            if (open < needed) throw new IOException("no free cell for food: " + file);
+        }
+
+        private String cell(int c) { return (c % width) + "," + (c / width); }
+
+        boolean wall(int x, int y) {
+            int i = y * width + x;
+            return (walls.get(i >>> 6) & (1L << i)) != 0;
+        }
+
+        // exit cell (y * width + x) of the portal at x,y, or -1
+        int portalExit(int x, int y) {
+            int c = y * width + x;
+            for (int i = 0; i < portals.length; i += 2) {
+                if (portals[i] == c) return portals[i + 1];
+            }
+            return -1;
+        }
+
+        int words() { return (int) (((long) width * height + 63) >>> 6); }
+        long word(int i) { return walls.get(i); }
     }
 
     // ===== Sound FX (generated tones) =====
@@ -0,0 +1,54 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// Vector API version of SnakeReal90.interpWrapScalar. Optional: SnakeReal90 picks it up only when the
+// incubator module is present.
+//
+//   javac --add-modules jdk.incubator.vector VectorInterp.java
+//   java --add-modules jdk.incubator.vector SnakeReal90
+public class VectorInterp implements SnakeReal90.AxisInterp {
+
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+    // ints at half the width, so one int vector converts into exactly one double vector
+    private static final VectorSpecies<Integer> I =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(Math.max(64, D.vectorBitSize() / 2)));
+
+    @Override
+    public void interp(int[] prev, int[] cur, int n, int size, double t, double scale, double off, double[] out) {
+        int lanes = Math.min(D.length(), I.length());
+        int bound = n - n % lanes;
+        int half = size / 2;
+
+        IntVector vSize = IntVector.broadcast(I, size);
+        IntVector vHalf = IntVector.broadcast(I, half);
+        DoubleVector dSize = DoubleVector.broadcast(D, size);
+
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            IntVector a = IntVector.fromArray(I, prev, i);
+            IntVector d = IntVector.fromArray(I, cur, i).sub(a);
+
+            // take the short way around: d > half -> d - size, d < -half -> d + size
+            d = d.sub(vHalf.sub(d).lanewise(VectorOperators.ASHR, 31).and(vSize));
+            d = d.add(d.add(vHalf).lanewise(VectorOperators.ASHR, 31).and(vSize));
+
+            DoubleVector da = (DoubleVector) a.convertShape(VectorOperators.I2D, D, 0);
+            DoubleVector dd = (DoubleVector) d.convertShape(VectorOperators.I2D, D, 0);
+            DoubleVector v = dd.mul(t).add(da);
+
+            // v is within half a board of [0, size): one masked correction each way
+            VectorMask<Double> below = v.compare(VectorOperators.LT, 0.0);
+            v = v.add(dSize, below);
+            VectorMask<Double> above = v.compare(VectorOperators.GE, (double) size);
+            v = v.sub(dSize, above);
+
+            v.mul(scale).add(off).intoArray(out, i);
+        }
+
+        SnakeReal90.interpWrapScalar(prev, cur, i, n, size, t, scale, off, out);
+    }
+}
@@ -0,0 +1,105 @@
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Random;
+
+// Per-frame snake interpolation: the old per-point interpWrap + Point2D.Double path vs the bulk kernels.
+//
+//   javac -d out SnakeReal90.java bench/InterpBench.java
+//   java -cp out InterpBench [cols] [rows] [points]     (defaults: 40 24 960 = a full board)
+//
+// With the Vector API kernel:
+//   javac --add-modules jdk.incubator.vector -d out SnakeReal90.java VectorInterp.java bench/InterpBench.java
+//   java --add-modules jdk.incubator.vector -cp out InterpBench
+public class InterpBench {
+
+    public static void main(String[] args) {
+        int cols = (args.length > 0) ? Integer.parseInt(args[0]) : 40;
+        int rows = (args.length > 1) ? Integer.parseInt(args[1]) : 24;
+        int n = (args.length > 2) ? Integer.parseInt(args[2]) : cols * rows;
+
+        // a random walk with wraps, like a long snake: prev -> cur is one cell per point
+        int[] px = new int[n], py = new int[n], sx = new int[n], sy = new int[n];
+        Random rng = new Random(42);
+        int x = cols / 2, y = rows / 2;
+        for (int i = n - 1; i >= 0; i--) {
+            px[i] = x;
+            py[i] = y;
+            switch (rng.nextInt(4)) {
+                case 0 -> x = (x + 1) % cols;
+                case 1 -> x = (x + cols - 1) % cols;
+                case 2 -> y = (y + 1) % rows;
+                default -> y = (y + rows - 1) % rows;
+            }
+            sx[i] = x;
+            sy[i] = y;
+        }
+
+        int tile = 29, offX = 60, offY = 2;
+        double[] outX = new double[n], outY = new double[n];
+        boolean vector = SnakeReal90.INTERP.getClass().getName().equals("VectorInterp");
+        int frames = Math.max(200, 20_000_000 / n);
+
+        System.out.printf("%d points on %dx%d, %d frames per round, kernel: %s%n",
+                n, cols, rows, frames, vector ? "Vector API + scalar" : "scalar only");
+
+        for (int round = 0; round < 5; round++) { // first rounds warm up the JIT
+            double sink = 0;
+
+            long t0 = System.nanoTime();
+            for (int f = 0; f < frames; f++) {
+                double alpha = (f % 16) / 16.0;
+                ArrayList<Point2D.Double> pts = oldPath(px, py, sx, sy, n, cols, rows, alpha, tile, offX, offY);
+                sink += pts.get(f % n).x;
+            }
+            double oldNs = (System.nanoTime() - t0) / ((double) frames * n);
+
+            t0 = System.nanoTime();
+            for (int f = 0; f < frames; f++) {
+                double alpha = (f % 16) / 16.0;
+                SnakeReal90.interpWrapScalar(px, sx, 0, n, cols, alpha, tile, offX + 0.5 * tile, outX);
+                SnakeReal90.interpWrapScalar(py, sy, 0, n, rows, alpha, tile, offY + 0.5 * tile, outY);
+                sink += outX[f % n];
+            }
+            double scalarNs = (System.nanoTime() - t0) / ((double) frames * n);
+
+            String vec = "";
+            if (vector) {
+                t0 = System.nanoTime();
+                for (int f = 0; f < frames; f++) {
+                    double alpha = (f % 16) / 16.0;
+                    SnakeReal90.INTERP.interp(px, sx, n, cols, alpha, tile, offX + 0.5 * tile, outX);
+                    SnakeReal90.INTERP.interp(py, sy, n, rows, alpha, tile, offY + 0.5 * tile, outY);
+                    sink += outX[f % n];
+                }
+                vec = String.format(", vector %.2f ns", (System.nanoTime() - t0) / ((double) frames * n));
+            }
+
+            System.out.printf("round %d: old %.2f ns/point, scalar %.2f ns%s   [%.1f]%n", round, oldNs, scalarNs, vec, sink);
+        }
+    }
+
+    // The per-frame code before the bulk kernel: one interpWrap pair + Point2D.Double per point
+    private static ArrayList<Point2D.Double> oldPath(int[] px, int[] py, int[] sx, int[] sy, int len,
+                                                     int cols, int rows, double alpha, int tile, int offX, int offY) {
+        ArrayList<Point2D.Double> pts = new ArrayList<>(len);
+        for (int i = 0; i < len; i++) {
+            double gx = interpWrap(px[i], sx[i], cols, alpha);
+            double gy = interpWrap(py[i], sy[i], rows, alpha);
+            double x = offX + (gx + 0.5) * tile;
+            double y = offY + (gy + 0.5) * tile;
+            pts.add(new Point2D.Double(x, y));
+        }
+        return pts;
+    }
+
+    private static double interpWrap(int a, int b, int size, double t) {
+        int da = b - a;
+        if (Math.abs(da) > size / 2) {
+            if (da > 0) a += size; else b += size;
+        }
+        double v = a + (b - a) * t;
+        v = v % size;
+        if (v < 0) v += size;
+        return v;
+    }
+}
@@ -0,0 +1,141 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+// Load time and collision cost of big level files (memory-mapped bitset vs reading into a long[]).
+//
+//   javac -d out SnakeReal90.java bench/LevelBench.java
+//   java -cp out LevelBench [side] [lookups]      (defaults: 4096, 20000000)
+public class LevelBench {
+
+    public static void main(String[] args) throws IOException {
+        int side = (args.length > 0) ? Integer.parseInt(args[0]) : 4096;
+        int lookups = (args.length > 1) ? Integer.parseInt(args[1]) : 20_000_000;
+        if (side < 128 || side > 32768) throw new IllegalArgumentException("side must be 128..32768");
+
+        Path file = Files.createTempFile("levelbench", ".lvl");
+        try {
+            writeLevel(file, side, 0.10, 64, new Random(42));
+            System.out.printf("level %dx%d, %d KB%n", side, side, Files.size(file) / 1024);
+
+            // ===== Load =====
+            long t0 = System.nanoTime();
+            SnakeReal90.Level lv = SnakeReal90.Level.load(file);
+            double firstMs = (System.nanoTime() - t0) / 1e6;
+            double mappedMs = medianMs(15, () -> SnakeReal90.Level.load(file));
+            double eagerMs = medianMs(15, () -> readEager(file, side));
+            System.out.printf("load  mmap: first %.2f ms, median %.3f ms   |   readAllBytes -> long[]: median %.2f ms%n",
+                    firstMs, mappedMs, eagerMs);
+
+            // ===== Collision (wall lookups) =====
+            long[] eager = readEager(file, side);
+            int[] xs = new int[lookups], ys = new int[lookups];
+            Random rng = new Random(7);
+            for (int i = 0; i < lookups; i++) {
+                xs[i] = rng.nextInt(side);
+                ys[i] = rng.nextInt(side);
+            }
+
+            for (int round = 0; round < 3; round++) { // first rounds warm up the JIT
+                long hits = 0;
+
+                t0 = System.nanoTime();
+                for (int i = 0; i < lookups; i++) if (lv.wall(xs[i], ys[i])) hits++;
+                double mappedRnd = (System.nanoTime() - t0) / (double) lookups;
+
+                t0 = System.nanoTime();
+                for (int i = 0; i < lookups; i++) if (eagerWall(eager, side, xs[i], ys[i])) hits++;
+                double eagerRnd = (System.nanoTime() - t0) / (double) lookups;
+
+                // a snake only ever looks at the cell next to its head: walk the board row by row
+                t0 = System.nanoTime();
+                for (int i = 0; i < lookups; i++) if (lv.wall(i % side, (i / side) % side)) hits++;
+                double mappedSeq = (System.nanoTime() - t0) / (double) lookups;
+
+                System.out.printf("wall() round %d: random %.2f ns (long[] %.2f ns), sequential %.2f ns   [hits %d]%n",
+                        round, mappedRnd, eagerRnd, mappedSeq, hits);
+            }
+
+            // portal lookups (linear scan, done once per step for the head cell)
+            t0 = System.nanoTime();
+            long exits = 0;
+            for (int i = 0; i < lookups; i++) if (lv.portalExit(xs[i], ys[i]) >= 0) exits++;
+            System.out.printf("portalExit(): %.2f ns   [exits %d]%n", (System.nanoTime() - t0) / (double) lookups, exits);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private interface Load { Object run() throws IOException; }
+
+    private static double medianMs(int runs, Load load) throws IOException {
+        double[] ms = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long t0 = System.nanoTime();
+            load.run();
+            ms[i] = (System.nanoTime() - t0) / 1e6;
+        }
+        java.util.Arrays.sort(ms);
+        return ms[runs / 2];
+    }
+
+    // What a non-mapped loader would do: read the file and copy the bitset out
+    private static long[] readEager(Path file, int side) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        int at = 24 + buf.getInt(20) * 16;
+        long[] words = new long[(int) (((long) side * side + 63) >>> 6)];
+        buf.position(at);
+        buf.asLongBuffer().get(words);
+        return words;
+    }
+
+    private static boolean eagerWall(long[] words, int side, int x, int y) {
+        int i = y * side + x;
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    // Random walls (density), portal pairs, start cell + body kept clear so Level.load accepts it
+    private static void writeLevel(Path file, int side, double density, int portalPairs, Random rng) throws IOException {
+        long[] words = new long[(int) (((long) side * side + 63) >>> 6)];
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                if (rng.nextDouble() < density) {
+                    int i = y * side + x;
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+
+        int startX = side / 2, startY = side / 2;
+        for (int i = -1; i < 7; i++) clear(words, side, startX - i, startY); // body + the cell it moves into
+
+        int[] portals = new int[portalPairs * 4];
+        for (int p = 0; p < portals.length; p += 2) {
+            // distinct rows above the start row: never on the body, never shared
+            int x = rng.nextInt(side), y = p / 2;
+            clear(words, side, x, y);
+            portals[p] = x;
+            portals[p + 1] = y;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(24 + portals.length * 4 + words.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(0x4C4B4E53).putInt(side).putInt(side).putInt(startX).putInt(startY).putInt(portalPairs);
+        for (int v : portals) buf.putInt(v);
+        for (long w : words) buf.putLong(w);
+        buf.flip();
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    private static void clear(long[] words, int side, int x, int y) {
+        int i = y * side + x;
+        words[i >>> 6] &= ~(1L << i);
+    }
+}